@@ -32,7 +32,7 @@ class ContributionArt {
       @Parameter(names = { "-m", "--matrix" }, description = "Matrix definition path.", required = true)
       private String matrix;
 
-      @Parameter(names = { "-r", "--repo" }, description = "Repository path.", required = true)
+      @Parameter(names = { "-r", "--repo" }, description = "Repository path. Required unless --serve is specified.")
       private String repository;
 
       @Parameter(names = { "-f", "--factor" }, description = "Scaling factor.")
@@ -43,12 +43,33 @@ class ContributionArt {
 
       @Parameter(names = { "-e", "--email" }, description = "Email address.")
       private String email = "";
+
+      @Parameter(names = { "-s", "--serve" }, description = "Serve a live preview of the matrix on localhost instead of generating commits.")
+      private boolean serve = false;
+
+      @Parameter(names = { "-p", "--port" }, description = "Preview server port.")
+      private int port = 8000;
     }
 
     try {
       Arguments arguments = new Arguments();
       new JCommander(arguments, args);
 
+      if (arguments.serve) {
+        if (arguments.port < 0 || arguments.port > 65535) {
+          throw new ParameterException(String.format("Invalid port: %d", arguments.port));
+        }
+
+        try (PreviewServer server = new PreviewServer(Paths.get(arguments.matrix), arguments.port)) {
+          server.watch();
+        }
+        return;
+      }
+
+      if (arguments.repository == null) {
+        throw new ParameterException("The following option is required: -r, --repo");
+      }
+
       try (Repository repository = new Repository(Paths.get(arguments.repository), arguments.name, arguments.email)) {
         repository.illustrate(new Matrix(Paths.get(arguments.matrix)), arguments.factor);
       }
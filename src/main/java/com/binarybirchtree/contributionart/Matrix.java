@@ -18,8 +18,13 @@ package com.binarybirchtree.contributionart;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.WeekFields;
 import java.util.Iterator;
 import java.util.logging.Logger;
 
@@ -87,6 +92,17 @@ public class Matrix implements Iterable<Matrix.Value> {
 
   private Value[][] values = new Value[COLUMNS][ROWS];
 
+  ///
+  /// @param[in] timestamp Timestamp containing the current date to use to render the matrix.
+  /// @return Date immediately preceding the date that corresponds to the first value in the matrix.
+  ///
+  public static ZonedDateTime origin (ZonedDateTime timestamp) {
+    return timestamp
+    .truncatedTo(ChronoUnit.DAYS)
+    .with(WeekFields.SUNDAY_START.dayOfWeek(), DayOfWeek.values().length)
+    .minusDays(AREA);
+  }
+
   ///
   /// Initializes the matrix from a definition file.
   ///
@@ -94,26 +110,52 @@ public class Matrix implements Iterable<Matrix.Value> {
   ///
   public Matrix (Path file) throws IOException, FileFormatException {
     try (BufferedReader reader = Files.newBufferedReader(file)) {
-      for (int row = 0; row < ROWS; ++row) {
-        String line = reader.readLine();
-        if (line == null || line.length() < COLUMNS) {
-          throw new FileFormatException(String.format("Invalid definition file: '%s'", file));
-        }
+      load(reader, file.toString());
+    }
+
+    LOGGER.info(String.format("Initialized matrix from definition file '%s'.", file));
+  }
 
-        for (int col = 0; col < COLUMNS; ++col) {
-          char character = line.charAt(col);
-          Value value = Value.parse(line.charAt(col));
-          if (value == null) {
-            throw new FileFormatException(String.format("Invalid character encountered at line %d, column %d of '%s': '%s'", row, col, file, character));
-          }
-          else {
-            values[col][row] = value;
-          }
+  ///
+  /// Initializes the matrix from the contents of a definition file.
+  ///
+  /// @param[in] definition Contents of definition file.
+  /// @param[in] source Description of where the definition came from, used in error messages.
+  ///
+  public Matrix (String definition, String source) throws FileFormatException {
+    try (BufferedReader reader = new BufferedReader(new StringReader(definition))) {
+      load(reader, source);
+    }
+    catch (IOException error) {
+      // Reading from an in-memory string cannot fail.
+      throw new AssertionError(error);
+    }
+  }
+
+  ///
+  /// Populates the matrix from a definition.
+  ///
+  /// @param[in] reader Reader positioned at the start of the definition.
+  /// @param[in] source Description of where the definition came from, used in error messages.
+  ///
+  private void load (BufferedReader reader, String source) throws IOException, FileFormatException {
+    for (int row = 0; row < ROWS; ++row) {
+      String line = reader.readLine();
+      if (line == null || line.length() < COLUMNS) {
+        throw new FileFormatException(String.format("Invalid definition file: '%s'", source));
+      }
+
+      for (int col = 0; col < COLUMNS; ++col) {
+        char character = line.charAt(col);
+        Value value = Value.parse(line.charAt(col));
+        if (value == null) {
+          throw new FileFormatException(String.format("Invalid character encountered at line %d, column %d of '%s': '%s'", row, col, source, character));
+        }
+        else {
+          values[col][row] = value;
         }
       }
     }
-
-    LOGGER.info(String.format("Initialized matrix from definition file '%s'.", file));
   }
 
   @Override
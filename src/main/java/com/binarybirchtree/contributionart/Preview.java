@@ -0,0 +1,108 @@
+// This file is part of ContributionArt.
+// Copyright (C) 2015, 2016 Binary Birch Tree
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.binarybirchtree.contributionart;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.logging.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+///
+/// Renders a matrix as an SVG image resembling the GitHub contribution graph,
+/// without creating any commits.
+/// Rendered images are cached by the hash of the definition they were rendered from.
+///
+public class Preview {
+  private static final Logger LOGGER = Logger.getLogger(Preview.class.getName());
+
+  public static final int CELL = 10;
+  public static final int SPACING = 2;
+  public static final int WIDTH = Matrix.COLUMNS * (CELL + SPACING) - SPACING;
+  public static final int HEIGHT = Matrix.ROWS * (CELL + SPACING) - SPACING;
+
+  private static final int CACHE_SIZE = 32;
+
+  private static final ImmutableMap<Matrix.Value, String> colors = ImmutableMap.of(
+    Matrix.Value.EMPTY, "#ebedf0",
+    Matrix.Value.LIGHT, "#c6e48b",
+    Matrix.Value.MEDIUM, "#7bc96f",
+    Matrix.Value.DARK, "#196127"
+  );
+
+  private Cache<HashCode, String> cache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  ///
+  /// Renders the contents of a definition file, reusing a previous rendering if one exists.
+  ///
+  /// @param[in] definition Contents of definition file.
+  /// @param[in] source Description of where the definition came from, used in error messages.
+  /// @param[in] timestamp Timestamp containing the current date to use to render the matrix.
+  /// @return SVG image.
+  ///
+  public String render (String definition, String source, ZonedDateTime timestamp) throws Matrix.FileFormatException {
+    // The date is part of the key, as it determines which cells are shown.
+    ZonedDateTime today = timestamp.truncatedTo(ChronoUnit.DAYS);
+    HashCode hash = Hashing.sha256().newHasher()
+    .putString(definition, StandardCharsets.UTF_8)
+    .putString(today.toString(), StandardCharsets.UTF_8)
+    .hash();
+
+    String image = cache.getIfPresent(hash);
+    if (image == null) {
+      image = render(new Matrix(definition, source), today);
+      cache.put(hash, image);
+      LOGGER.info(String.format("Rendered preview of '%s' with hash %s.", source, hash));
+    }
+    return image;
+  }
+
+  ///
+  /// @param[in] matrix Matrix to render.
+  /// @param[in] timestamp Timestamp containing the current date to use to render the matrix.
+  /// @return SVG image.
+  ///
+  public static String render (Matrix matrix, ZonedDateTime timestamp) {
+    ZonedDateTime today = timestamp.truncatedTo(ChronoUnit.DAYS);
+    ZonedDateTime current = Matrix.origin(timestamp);
+
+    StringBuilder builder = new StringBuilder();
+    builder.append(String.format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\">\n", WIDTH, HEIGHT));
+
+    int index = 0;
+    for (Matrix.Value value : matrix) {
+      current = current.plusDays(1);
+
+      // As on GitHub, dates later than the specified timestamp are not shown.
+      if (!current.isAfter(today)) {
+        int x = index / Matrix.ROWS * (CELL + SPACING);
+        int y = index % Matrix.ROWS * (CELL + SPACING);
+        builder.append(String.format("<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"%s\"/>\n", x, y, CELL, CELL, colors.get(value)));
+      }
+
+      ++index;
+    }
+
+    builder.append("</svg>\n");
+    return builder.toString();
+  }
+}
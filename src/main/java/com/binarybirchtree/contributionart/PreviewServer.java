@@ -0,0 +1,329 @@
+// This file is part of ContributionArt.
+// Copyright (C) 2015, 2016 Binary Birch Tree
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.binarybirchtree.contributionart;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+///
+/// Serves a live preview of a definition file on localhost.
+/// The definition file is watched for changes, and connected browsers are notified
+/// through server-sent events whenever the rendered preview changes.
+///
+public class PreviewServer implements AutoCloseable {
+  private static final Logger LOGGER = Logger.getLogger(PreviewServer.class.getName());
+
+  private static final String PAGE =
+  "<!DOCTYPE html>\n" +
+  "<html>\n" +
+  "<head><meta charset=\"utf-8\"><title>ContributionArt Preview</title></head>\n" +
+  "<body>\n" +
+  "<img id=\"preview\" src=\"/preview.svg\" alt=\"Contribution graph preview\">\n" +
+  "<script>\n" +
+  "new EventSource('/events').onmessage = function (event) {\n" +
+  "  document.getElementById('preview').src = '/preview.svg?' + event.data;\n" +
+  "};\n" +
+  "</script>\n" +
+  "</body>\n" +
+  "</html>\n";
+
+  private static final String EMPTY = String.format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\"/>\n", Preview.WIDTH, Preview.HEIGHT);
+
+  private Path file;
+  private Preview preview = new Preview();
+  private HttpServer server;
+  private ExecutorService executor = Executors.newCachedThreadPool();
+  private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private WatchService watcher;
+  private List<OutputStream> listeners = new ArrayList<>();
+
+  // Last valid definition read from the file, and the preview most recently published for it.
+  private volatile String definition = null;
+  private volatile String image = EMPTY;
+  private volatile int revision = 0;
+
+  @Override
+  public void close () throws IOException {
+    List<OutputStream> snapshot;
+    synchronized (this) {
+      snapshot = new ArrayList<>(listeners);
+    }
+    for (OutputStream listener : snapshot) {
+      discard(listener);
+    }
+
+    server.stop(0);
+    executor.shutdownNow();
+    scheduler.shutdownNow();
+    watcher.close();
+  }
+
+  ///
+  /// @param[in] file Path to definition file.
+  /// @param[in] port Port to listen on, or 0 to use any available port.
+  ///
+  public PreviewServer (Path file, int port) throws IOException {
+    this.file = file.toAbsolutePath();
+    refresh();
+
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext("/", this::page);
+    server.createContext("/preview.svg", this::image);
+    server.createContext("/events", this::events);
+    server.setExecutor(executor);
+
+    // Watch the parent directory rather than the file itself,
+    // as many editors save by replacing the file instead of modifying it.
+    try {
+      watcher = FileSystems.getDefault().newWatchService();
+      this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+    catch (IOException error) {
+      server.stop(0);
+      if (watcher != null) {
+        watcher.close();
+      }
+      executor.shutdownNow();
+      scheduler.shutdownNow();
+      throw error;
+    }
+
+    server.start();
+    schedule();
+
+    LOGGER.info(String.format("Serving preview of '%s' at %s.", this.file, address()));
+  }
+
+  ///
+  /// @return Address at which the preview is being served.
+  ///
+  public URI address () {
+    InetSocketAddress address = server.getAddress();
+    return URI.create(String.format("http://%s:%d/", address.getHostString(), address.getPort()));
+  }
+
+  ///
+  /// @return Number of times the published preview has changed.
+  ///
+  int revision () {
+    return revision;
+  }
+
+  ///
+  /// Watches the definition file for changes until the server is closed or the thread is interrupted.
+  ///
+  public void watch () {
+    try {
+      while (true) {
+        WatchKey key = watcher.take();
+
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          // Events may have been lost on overflow, so assume the file was among them.
+          if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+            changed = true;
+          }
+        }
+
+        if (changed) {
+          refresh();
+        }
+
+        if (!key.reset()) {
+          LOGGER.warning(String.format("Stopped watching '%s'.", file.getParent()));
+          return;
+        }
+      }
+    }
+    catch (InterruptedException error) {
+      Thread.currentThread().interrupt();
+    }
+    catch (ClosedWatchServiceException error) {
+      // The server was closed.
+    }
+  }
+
+  ///
+  /// Re-renders the definition file, and notifies listeners if the preview has changed.
+  /// Invalid definitions are logged and leave the current preview in place,
+  /// since the file is likely to be in the middle of being edited.
+  ///
+  void refresh () {
+    List<OutputStream> snapshot;
+    synchronized (this) {
+      try {
+        String contents = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        String rendered = render(contents);
+        definition = contents;
+
+        if (rendered.equals(image)) {
+          return;
+        }
+
+        image = rendered;
+        ++revision;
+      }
+      catch (IOException | Matrix.FileFormatException error) {
+        LOGGER.warning(error.toString());
+        return;
+      }
+
+      snapshot = new ArrayList<>(listeners);
+    }
+
+    // Write to each listener on its own thread, so that a stalled browser cannot hold up the others.
+    for (OutputStream listener : snapshot) {
+      executor.execute(() -> publish(listener));
+    }
+  }
+
+  ///
+  /// @param[in] definition Contents of definition file.
+  /// @return Preview of the definition as of the current date.
+  ///
+  private String render (String definition) throws Matrix.FileFormatException {
+    return preview.render(definition, file.toString(), ZonedDateTime.now(ZoneOffset.UTC));
+  }
+
+  ///
+  /// Refreshes the preview at the start of the next day,
+  /// as the date determines which cells are shown and where.
+  ///
+  private void schedule () {
+    ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    long delay = Duration.between(now, now.truncatedTo(ChronoUnit.DAYS).plusDays(1)).toMillis() + 1;
+    scheduler.schedule(() -> {
+      refresh();
+      schedule();
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  ///
+  /// Sends the current revision to a listener, discarding the listener if it has disconnected.
+  ///
+  /// @param[in] listener Event stream of a connected browser.
+  ///
+  private void publish (OutputStream listener) {
+    // Only writes to the same listener are serialized; the current revision is read under the lock,
+    // so a listener always ends up with the latest revision regardless of the order of writes.
+    synchronized (listener) {
+      try {
+        listener.write(String.format("data: %d\n\n", revision).getBytes(StandardCharsets.UTF_8));
+        listener.flush();
+      }
+      catch (IOException error) {
+        discard(listener);
+      }
+    }
+  }
+
+  ///
+  /// @param[in] listener Event stream of a connected browser.
+  ///
+  private void discard (OutputStream listener) {
+    synchronized (this) {
+      listeners.remove(listener);
+    }
+    try {
+      listener.close();
+    }
+    catch (IOException error) {
+      // The listener has already disconnected.
+    }
+  }
+
+  private void page (HttpExchange exchange) throws IOException {
+    if (!exchange.getRequestURI().getPath().equals("/")) {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+      return;
+    }
+    respond(exchange, "text/html; charset=utf-8", PAGE);
+  }
+
+  private void image (HttpExchange exchange) throws IOException {
+    // Render on each request rather than serving the published image,
+    // so that the preview stays correct once the date changes.
+    // The rendering is cached, so this does not re-parse the definition.
+    String definition = this.definition;
+    String body = EMPTY;
+    if (definition != null) {
+      try {
+        body = render(definition);
+      }
+      catch (Matrix.FileFormatException error) {
+        // The definition was already successfully parsed when it was read.
+        throw new AssertionError(error);
+      }
+    }
+    respond(exchange, "image/svg+xml", body);
+  }
+
+  private void events (HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    exchange.sendResponseHeaders(200, 0);
+
+    // The exchange is intentionally left open so that later revisions can be pushed to it.
+    OutputStream listener = exchange.getResponseBody();
+    synchronized (this) {
+      listeners.add(listener);
+    }
+    publish(listener);
+  }
+
+  ///
+  /// @param[in] exchange Exchange to respond to.
+  /// @param[in] type Content type.
+  /// @param[in] body Response body.
+  ///
+  private static void respond (HttpExchange exchange, String type, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", type);
+    exchange.getResponseHeaders().set("Cache-Control", "no-store");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream stream = exchange.getResponseBody()) {
+      stream.write(bytes);
+    }
+  }
+}
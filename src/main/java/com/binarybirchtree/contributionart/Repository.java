@@ -20,11 +20,9 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.DayOfWeek;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.time.temporal.WeekFields;
 import java.util.Date;
 import java.util.TimeZone;
 import java.util.logging.Logger;
@@ -84,10 +82,7 @@ public class Repository implements AutoCloseable {
     ZonedDateTime now = ZonedDateTime.now();
 
     // Start from the earliest date, which corresponds to the first value in the definition matrix.
-    ZonedDateTime current = timestamp
-    .truncatedTo(ChronoUnit.DAYS)
-    .with(WeekFields.SUNDAY_START.dayOfWeek(), DayOfWeek.values().length)
-    .minusDays(Matrix.AREA);
+    ZonedDateTime current = Matrix.origin(timestamp);
 
     for (Matrix.Value value : matrix) {
       current = current.plusDays(1);
@@ -33,6 +33,12 @@ public class MatrixTest extends BaseTest {
     Assert.assertEquals(definition, matrix.toString());
   }
 
+  @Test
+  public void loads_definition_string () throws Matrix.FileFormatException {
+    Matrix matrix = new Matrix(definition, "definition");
+    Assert.assertEquals(definition, matrix.toString());
+  }
+
   @Test
   public void empty_file () throws IOException, Matrix.FileFormatException {
     exception.expect(Matrix.FileFormatException.class);
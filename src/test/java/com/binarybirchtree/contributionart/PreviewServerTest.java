@@ -0,0 +1,130 @@
+// This file is part of ContributionArt.
+// Copyright (C) 2015, 2016 Binary Birch Tree
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.binarybirchtree.contributionart;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PreviewServerTest extends BaseTest {
+  private static final int TIMEOUT = 30000;
+
+  ///
+  /// @param[in] server Server to fetch from.
+  /// @param[in] path Path to fetch.
+  /// @return Response body.
+  ///
+  private static String fetch (PreviewServer server, String path) throws IOException {
+    URLConnection connection = server.address().resolve(path).toURL().openConnection();
+    connection.setReadTimeout(TIMEOUT);
+    try (InputStream stream = connection.getInputStream()) {
+      return new String(ByteStreams.toByteArray(stream), StandardCharsets.UTF_8);
+    }
+  }
+
+  ///
+  /// @param[in] server Server to subscribe to.
+  /// @return Reader for the server's event stream.
+  ///
+  private static BufferedReader subscribe (PreviewServer server) throws IOException {
+    URLConnection connection = server.address().resolve("events").toURL().openConnection();
+    connection.setReadTimeout(TIMEOUT);
+    return new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+  }
+
+  ///
+  /// @param[in] contents Contents to replace the definition file with.
+  ///
+  private void write (String contents) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      writer.write(contents);
+    }
+  }
+
+  @Test
+  public void serves_preview () throws IOException {
+    try (PreviewServer server = new PreviewServer(file, 0)) {
+      Assert.assertEquals(1, server.revision());
+      Assert.assertTrue(fetch(server, "preview.svg").contains("<rect "));
+      Assert.assertTrue(fetch(server, "/").contains("/preview.svg"));
+    }
+  }
+
+  @Test
+  public void unknown_path () throws IOException {
+    try (PreviewServer server = new PreviewServer(file, 0)) {
+      HttpURLConnection connection = (HttpURLConnection) server.address().resolve("unknown").toURL().openConnection();
+      Assert.assertEquals(404, connection.getResponseCode());
+    }
+  }
+
+  @Test
+  public void keeps_last_valid_preview () throws IOException {
+    try (PreviewServer server = new PreviewServer(file, 0)) {
+      String image = fetch(server, "preview.svg");
+
+      write(definition.replace('.', ','));
+      server.refresh();
+      Assert.assertEquals(image, fetch(server, "preview.svg"));
+      Assert.assertEquals(1, server.revision());
+
+      write(definition.replace('!', ':'));
+      server.refresh();
+      Assert.assertNotEquals(image, fetch(server, "preview.svg"));
+      Assert.assertEquals(2, server.revision());
+    }
+  }
+
+  @Test
+  public void pushes_revisions () throws IOException {
+    try (PreviewServer server = new PreviewServer(file, 0)) {
+      BufferedReader events = subscribe(server);
+      Assert.assertEquals("data: 1", events.readLine());
+      Assert.assertEquals("", events.readLine());
+
+      write(definition.replace('!', ':'));
+      server.refresh();
+      Assert.assertEquals("data: 2", events.readLine());
+    }
+  }
+
+  @Test
+  public void watches_definition_file () throws IOException {
+    try (PreviewServer server = new PreviewServer(file, 0)) {
+      Thread watcher = new Thread(server::watch);
+      watcher.setDaemon(true);
+      watcher.start();
+
+      BufferedReader events = subscribe(server);
+      Assert.assertEquals("data: 1", events.readLine());
+      Assert.assertEquals("", events.readLine());
+
+      write(definition.replace('!', ':'));
+      Assert.assertEquals("data: 2", events.readLine());
+    }
+  }
+}
@@ -0,0 +1,64 @@
+// This file is part of ContributionArt.
+// Copyright (C) 2015, 2016 Binary Birch Tree
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.binarybirchtree.contributionart;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PreviewTest extends BaseTest {
+  private static final ZonedDateTime saturday = ZonedDateTime.now(ZoneOffset.UTC).with(TemporalAdjusters.previousOrSame(DayOfWeek.SATURDAY));
+
+  ///
+  /// @param[in] image SVG image.
+  /// @return Number of cells in the image.
+  ///
+  private static int cells (String image) {
+    return image.split("<rect ", -1).length - 1;
+  }
+
+  @Test
+  public void renders_all_cells () throws IOException, Matrix.FileFormatException {
+    Assert.assertEquals(Matrix.AREA, cells(Preview.render(new Matrix(file), saturday)));
+  }
+
+  @Test
+  public void omits_future_cells () throws IOException, Matrix.FileFormatException {
+    // Only the first day of the final week has occurred.
+    ZonedDateTime sunday = saturday.plusDays(1);
+    Assert.assertEquals(Matrix.AREA - DayOfWeek.values().length + 1, cells(Preview.render(new Matrix(file), sunday)));
+  }
+
+  @Test
+  public void reuses_cached_image () throws Matrix.FileFormatException {
+    Preview preview = new Preview();
+    String image = preview.render(definition, "definition", saturday);
+    Assert.assertSame(image, preview.render(definition, "definition", saturday));
+    Assert.assertNotEquals(image, preview.render(definition.replace('!', ':'), "definition", saturday));
+  }
+
+  @Test
+  public void invalid_definition () throws Matrix.FileFormatException {
+    exception.expect(Matrix.FileFormatException.class);
+    new Preview().render(definition.replace('.', ','), "definition", saturday);
+  }
+}